@@ -0,0 +1,269 @@
+package javaprogram;
+import java.util.Arrays;
+
+// Edge storage shared by GraphManager and the canvas. Each edge is one record
+// under a stable id (ids of removed edges are recycled); endpoints are dense
+// vertex indices. Every vertex keeps an incidence list holding each incident
+// edge once, so direction is applied when the graph is traversed rather than
+// when the edge is inserted.
+//
+// Parallel edges between the same pair of vertices are chained together, and
+// vertices with more than HUB_DEGREE incident edges get a neighbor -> edge
+// hash index, so finding or removing an edge at a hub never scans its list.
+class EdgeStore {
+    static final int HUB_DEGREE = 32;
+
+    // Per edge id
+    private int[] from;
+    private int[] to;
+    private int[] weight;
+    private int[] posAtFrom;        // slot of the edge in from's incidence list
+    private int[] posAtTo;          // slot in to's list (unused for self-loops)
+    private int[] prevParallel;     // chain of edges joining the same pair
+    private int[] nextParallel;
+    private int edgeCapacity;       // ids handed out so far
+    private int[] freeIds;
+    private int freeCount;
+    private int edgeCount;
+
+    // Per vertex index
+    private int[][] incidence;
+    private int[] degree;
+    private IntIntHashMap[] hubIndex;   // neighbor -> some edge of that pair
+    private int vertexCount;
+
+    public EdgeStore() {
+        from = new int[16];
+        to = new int[16];
+        weight = new int[16];
+        posAtFrom = new int[16];
+        posAtTo = new int[16];
+        prevParallel = new int[16];
+        nextParallel = new int[16];
+        freeIds = new int[16];
+        incidence = new int[16][];
+        degree = new int[16];
+        hubIndex = new IntIntHashMap[16];
+    }
+
+    public int getEdgeCount() { return edgeCount; }
+    public int getVertexCount() { return vertexCount; }
+
+    // Upper bound for edge ids; ids below it may be dead, see isLive
+    public int getEdgeIdLimit() { return edgeCapacity; }
+    public boolean isLive(int e) { return e >= 0 && e < edgeCapacity && from[e] >= 0; }
+
+    public int getFrom(int e) { return from[e]; }
+    public int getTo(int e) { return to[e]; }
+    public int getWeight(int e) { return weight[e]; }
+    public int getOther(int e, int v) { return from[e] == v ? to[e] : from[e]; }
+
+    public int getDegree(int v) { return degree[v]; }
+    public int getIncidentEdge(int v, int k) { return incidence[v][k]; }
+
+    // Adds an empty vertex at index v, shifting later indices up by one
+    public void insertVertex(int v) {
+        ensureVertexCapacity(vertexCount + 1);
+        if (v < vertexCount) {
+            shiftVertices(v, vertexCount, 1);
+        }
+        incidence[v] = new int[4];
+        degree[v] = 0;
+        hubIndex[v] = null;
+        vertexCount++;
+    }
+
+    // Drops vertex v together with its edges and closes the gap it leaves
+    public int removeVertex(int v) {
+        int removed = 0;
+        while (degree[v] > 0) {
+            removeEdge(incidence[v][degree[v] - 1]);
+            removed++;
+        }
+        if (v < vertexCount - 1) {
+            shiftVertices(v + 1, vertexCount, -1);
+        }
+        vertexCount--;
+        incidence[vertexCount] = null;
+        hubIndex[vertexCount] = null;
+        return removed;
+    }
+
+    public int addEdge(int u, int v, int w) {
+        int e = freeCount > 0 ? freeIds[--freeCount] : newEdgeId();
+        from[e] = u;
+        to[e] = v;
+        weight[e] = w;
+
+        // Put the new edge at the head of its pair's parallel chain
+        int head = findAny(u, v);
+        prevParallel[e] = -1;
+        nextParallel[e] = head;
+        if (head >= 0) prevParallel[head] = e;
+
+        posAtFrom[e] = appendIncidence(u, e);
+        posAtTo[e] = u == v ? -1 : appendIncidence(v, e);
+        indexNeighbor(u, v, e);
+        indexNeighbor(v, u, e);
+        edgeCount++;
+        return e;
+    }
+
+    // O(1): swap-removes the edge from both incidence lists
+    public boolean removeEdge(int e) {
+        if (!isLive(e)) return false;
+        int u = from[e];
+        int v = to[e];
+
+        int prev = prevParallel[e];
+        int next = nextParallel[e];
+        if (prev >= 0) nextParallel[prev] = next;
+        if (next >= 0) prevParallel[next] = prev;
+        int replacement = prev >= 0 ? prev : next;
+        unindexNeighbor(u, v, e, replacement);
+        unindexNeighbor(v, u, e, replacement);
+
+        removeIncidence(u, posAtFrom[e]);
+        if (u != v) removeIncidence(v, posAtTo[e]);
+
+        from[e] = -1;
+        to[e] = -1;
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = e;
+        edgeCount--;
+        return true;
+    }
+
+    // Newest edge u -> v (or either way round when undirected), -1 if none
+    public int findEdge(int u, int v, boolean directed) {
+        for (int e = findAny(u, v); e >= 0; e = nextParallel[e]) {
+            if (!directed || from[e] == u) return e;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        Arrays.fill(incidence, 0, vertexCount, null);
+        Arrays.fill(hubIndex, 0, vertexCount, null);
+        vertexCount = 0;
+        edgeCapacity = 0;
+        freeCount = 0;
+        edgeCount = 0;
+    }
+
+    // Some edge joining u and v in either direction: O(1) at hubs, otherwise
+    // a scan of the smaller incidence list
+    private int findAny(int u, int v) {
+        if (hubIndex[u] != null) return hubIndex[u].get(v, -1);
+        if (hubIndex[v] != null) return hubIndex[v].get(u, -1);
+        int a = degree[u] <= degree[v] ? u : v;
+        int b = a == u ? v : u;
+        int[] list = incidence[a];
+        for (int k = 0; k < degree[a]; k++) {
+            int e = list[k];
+            if (getOther(e, a) == b) {
+                // Walk back to the head so callers see the newest edge first
+                while (prevParallel[e] >= 0) e = prevParallel[e];
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    private void indexNeighbor(int v, int neighbor, int e) {
+        if (hubIndex[v] != null) {
+            hubIndex[v].put(neighbor, e);
+        } else if (degree[v] > HUB_DEGREE) {
+            buildHubIndex(v);
+        }
+    }
+
+    private void unindexNeighbor(int v, int neighbor, int e, int replacement) {
+        IntIntHashMap index = hubIndex[v];
+        if (index == null || index.get(neighbor, -1) != e) return;
+        if (replacement >= 0) {
+            // Keep pointing at the head of the chain
+            while (prevParallel[replacement] >= 0) replacement = prevParallel[replacement];
+            index.put(neighbor, replacement);
+        } else {
+            index.remove(neighbor);
+        }
+    }
+
+    private void buildHubIndex(int v) {
+        IntIntHashMap index = new IntIntHashMap(degree[v] * 2);
+        for (int k = 0; k < degree[v]; k++) {
+            int e = incidence[v][k];
+            int neighbor = getOther(e, v);
+            if (!index.containsKey(neighbor)) {
+                int head = e;
+                while (prevParallel[head] >= 0) head = prevParallel[head];
+                index.put(neighbor, head);
+            }
+        }
+        hubIndex[v] = index;
+    }
+
+    private int appendIncidence(int v, int e) {
+        int d = degree[v];
+        if (d == incidence[v].length) {
+            incidence[v] = Arrays.copyOf(incidence[v], d * 2);
+        }
+        incidence[v][d] = e;
+        degree[v] = d + 1;
+        return d;
+    }
+
+    private void removeIncidence(int v, int slot) {
+        int last = --degree[v];
+        if (slot != last) {
+            int moved = incidence[v][last];
+            incidence[v][slot] = moved;
+            if (from[moved] == v) {
+                posAtFrom[moved] = slot;
+            } else {
+                posAtTo[moved] = slot;
+            }
+        }
+    }
+
+    // Moves the vertex block [start, end) by delta slots and renumbers every
+    // endpoint that refers to it. O(V + E); GraphManager only needs it for
+    // out-of-order labels and for removing a vertex other than the newest.
+    private void shiftVertices(int start, int end, int delta) {
+        System.arraycopy(incidence, start, incidence, start + delta, end - start);
+        System.arraycopy(degree, start, degree, start + delta, end - start);
+        for (int e = 0; e < edgeCapacity; e++) {
+            if (from[e] >= start && from[e] < end) from[e] += delta;
+            if (to[e] >= start && to[e] < end) to[e] += delta;
+        }
+        // Hub indexes are keyed by neighbor index, so rebuild them
+        for (int v = 0; v < vertexCount + delta; v++) {
+            if (delta > 0 && v == start) continue;   // slot being opened
+            hubIndex[v] = null;
+            if (degree[v] > HUB_DEGREE) buildHubIndex(v);
+        }
+    }
+
+    private int newEdgeId() {
+        if (edgeCapacity == from.length) {
+            int size = edgeCapacity * 2;
+            from = Arrays.copyOf(from, size);
+            to = Arrays.copyOf(to, size);
+            weight = Arrays.copyOf(weight, size);
+            posAtFrom = Arrays.copyOf(posAtFrom, size);
+            posAtTo = Arrays.copyOf(posAtTo, size);
+            prevParallel = Arrays.copyOf(prevParallel, size);
+            nextParallel = Arrays.copyOf(nextParallel, size);
+        }
+        return edgeCapacity++;
+    }
+
+    private void ensureVertexCapacity(int capacity) {
+        if (capacity <= incidence.length) return;
+        int size = Math.max(capacity, incidence.length * 2);
+        incidence = Arrays.copyOf(incidence, size);
+        degree = Arrays.copyOf(degree, size);
+        hubIndex = Arrays.copyOf(hubIndex, size);
+    }
+}
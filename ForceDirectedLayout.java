@@ -0,0 +1,385 @@
+package javaprogram;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Receives position snapshots from a running layout
+interface LayoutListener {
+    // Called on the layout thread with arrays owned by the listener
+    void positionsUpdated(ForceDirectedLayout source, double[] x, double[] y, boolean finished);
+}
+
+// Force-directed layout (Fruchterman-Reingold) with Barnes-Hut repulsion.
+// Runs on its own worker thread and fans the repulsion pass out over a
+// private ForkJoinPool, so the EDT only ever sees finished snapshots.
+class ForceDirectedLayout {
+    private static final int BLOCK_SIZE = 1024;
+    private static final int MAX_ITERATIONS = 300;
+    private static final double THETA = 0.9;
+    private static final double GRAVITY = 0.05;
+    private static final long PUBLISH_INTERVAL_MS = 50;
+
+    private final int vertexCount;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] x;
+    private final double[] y;
+    private final double[] dispX;
+    private final double[] dispY;
+    private final LayoutListener listener;
+
+    private volatile boolean stopRequested;
+    private boolean finishedPublished;
+    private Thread worker;
+
+    public ForceDirectedLayout(double[] startX, double[] startY, int[] edgeFrom, int[] edgeTo,
+                               LayoutListener listener) {
+        this.vertexCount = startX.length;
+        this.x = startX.clone();
+        this.y = startY.clone();
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.dispX = new double[vertexCount];
+        this.dispY = new double[vertexCount];
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        if (worker != null) return;
+        worker = new Thread(this::run, "force-layout");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Safe to call from any thread; the worker exits after its current block
+    // and publishes nothing further
+    public void stop() {
+        stopRequested = true;
+    }
+
+    private void run() {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        try {
+            layout(pool);
+        } finally {
+            pool.shutdownNow();
+            // A failed or interrupted run still tells the listener it is over
+            if (!finishedPublished && !stopRequested) {
+                publish(true);
+            }
+        }
+    }
+
+    private void publish(boolean finished) {
+        if (finished) finishedPublished = true;
+        listener.positionsUpdated(this, x.clone(), y.clone(), finished);
+    }
+
+    private void layout(ForkJoinPool pool) {
+        if (vertexCount == 0) {
+            publish(true);
+            return;
+        }
+
+        separateCoincidentPoints();
+
+        // Ideal edge length for the area currently covered by the vertices
+        double area = Math.max(centerAndMeasure(), vertexCount * 400.0);
+        double k = Math.sqrt(area / vertexCount);
+        double k2 = k * k;
+        double temperature = Math.sqrt(area) / 10;
+        double cooling = temperature / (MAX_ITERATIONS + 1);
+
+        BarnesHutTree tree = new BarnesHutTree(vertexCount);
+        int blocks = (vertexCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long lastPublish = System.currentTimeMillis();
+
+        for (int iter = 0; iter < MAX_ITERATIONS && !stopRequested; iter++) {
+            tree.build(x, y, vertexCount);
+
+            // Repulsion: O(V log V) via the quadtree, parallel over vertex blocks
+            try {
+                pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(b -> {
+                    if (stopRequested) return;
+                    int[] stack = new int[tree.stackCapacity()];
+                    int end = Math.min(vertexCount, (b + 1) * BLOCK_SIZE);
+                    for (int i = b * BLOCK_SIZE; i < end; i++) {
+                        tree.repulsion(i, x[i], y[i], THETA, k2, stack, dispX, dispY);
+                    }
+                })).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Layout iteration failed", e.getCause());
+            }
+            if (stopRequested) break;
+
+            // Attraction along edges
+            for (int e = 0; e < edgeFrom.length; e++) {
+                int u = edgeFrom[e];
+                int v = edgeTo[e];
+                if (u == v) continue;
+                double dx = x[u] - x[v];
+                double dy = y[u] - y[v];
+                double d = Math.sqrt(dx * dx + dy * dy);
+                if (d == 0) continue;
+                double f = d / k;
+                dispX[u] -= dx * f;
+                dispY[u] -= dy * f;
+                dispX[v] += dx * f;
+                dispY[v] += dy * f;
+            }
+
+            // Move each vertex, capped by the current temperature
+            for (int i = 0; i < vertexCount; i++) {
+                double dx = dispX[i] - GRAVITY * x[i];
+                double dy = dispY[i] - GRAVITY * y[i];
+                double len = Math.sqrt(dx * dx + dy * dy);
+                if (len > 0) {
+                    double step = Math.min(len, temperature) / len;
+                    x[i] += dx * step;
+                    y[i] += dy * step;
+                }
+                dispX[i] = 0;
+                dispY[i] = 0;
+            }
+            temperature -= cooling;
+
+            long now = System.currentTimeMillis();
+            if (now - lastPublish >= PUBLISH_INTERVAL_MS && !stopRequested) {
+                publish(false);
+                lastPublish = now;
+            }
+        }
+
+        if (!stopRequested) {
+            publish(true);
+        }
+    }
+
+    // Gravity pulls towards the origin, so shift the vertices to be centred on
+    // it; returns the area of their original bounding box
+    private double centerAndMeasure() {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        double sumX = 0, sumY = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+            sumX += x[i];
+            sumY += y[i];
+        }
+        double cx = sumX / vertexCount;
+        double cy = sumY / vertexCount;
+        for (int i = 0; i < vertexCount; i++) {
+            x[i] -= cx;
+            y[i] -= cy;
+        }
+        return (maxX - minX) * (maxY - minY);
+    }
+
+    // Imported or generated graphs often start with every vertex at one spot
+    private void separateCoincidentPoints() {
+        Random random = new Random(vertexCount);
+        double spread = Math.sqrt(vertexCount) * 20;
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < vertexCount; i++) {
+            long key = (Double.doubleToLongBits(x[i]) * 31) ^ Double.doubleToLongBits(y[i]);
+            if (!seen.add(key)) {
+                x[i] += (random.nextDouble() - 0.5) * spread;
+                y[i] += (random.nextDouble() - 0.5) * spread;
+            }
+        }
+    }
+}
+
+// Flat-array quadtree used for the Barnes-Hut approximation. Rebuilt every
+// iteration and then only read, so the repulsion pass can share it freely.
+class BarnesHutTree {
+    private static final int MAX_DEPTH = 48;
+
+    private int nodeCount;
+    private int[] children;     // 4 slots per node, -1 when absent
+    private int[] body;         // point index for leaves, -1 otherwise
+    private boolean[] internal;
+    private double[] centerX, centerY, halfSize;
+    private double[] massX, massY, mass;
+
+    public BarnesHutTree(int expectedPoints) {
+        allocate(Math.max(16, expectedPoints * 2));
+    }
+
+    public int stackCapacity() {
+        return 3 * MAX_DEPTH + 4;
+    }
+
+    public void build(double[] x, double[] y, int n) {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        nodeCount = 0;
+        double half = Math.max(maxX - minX, maxY - minY) / 2 + 1;
+        newNode((minX + maxX) / 2, (minY + maxY) / 2, half, -1, 0, 0);
+
+        for (int i = 0; i < n; i++) {
+            insert(i, x[i], y[i]);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            if (mass[node] > 0) {
+                massX[node] /= mass[node];
+                massY[node] /= mass[node];
+            }
+        }
+    }
+
+    private void insert(int point, double px, double py) {
+        int node = 0;
+        int depth = 0;
+        while (true) {
+            if (internal[node]) {
+                massX[node] += px;
+                massY[node] += py;
+                mass[node] += 1;
+                int q = quadrant(node, px, py);
+                int child = children[node * 4 + q];
+                if (child == -1) {
+                    children[node * 4 + q] = newChild(node, q, point, px, py);
+                    return;
+                }
+                node = child;
+                depth++;
+            } else if (body[node] == -1 && mass[node] == 0) {
+                body[node] = point;
+                massX[node] = px;
+                massY[node] = py;
+                mass[node] = 1;
+                return;
+            } else if (depth >= MAX_DEPTH) {
+                // Effectively coincident points share a bucket
+                massX[node] += px;
+                massY[node] += py;
+                mass[node] += 1;
+                return;
+            } else {
+                // Split the leaf and push its occupant one level down
+                int existing = body[node];
+                double ex = massX[node];
+                double ey = massY[node];
+                body[node] = -1;
+                internal[node] = true;
+                int q = quadrant(node, ex, ey);
+                children[node * 4 + q] = newChild(node, q, existing, ex, ey);
+            }
+        }
+    }
+
+    // Accumulates the approximate repulsive force on point i into fx/fy
+    public void repulsion(int i, double px, double py, double theta, double k2,
+                          int[] stack, double[] fx, double[] fy) {
+        double theta2 = theta * theta;
+        double sumX = 0, sumY = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            double m = mass[node];
+            if (m == 0) continue;
+            double dx = px - massX[node];
+            double dy = py - massY[node];
+            double d2 = dx * dx + dy * dy;
+
+            if (!internal[node]) {
+                if (body[node] == i) {
+                    m -= 1;
+                    if (m == 0) continue;
+                }
+            } else {
+                double size = halfSize[node] * 2;
+                if (size * size >= theta2 * d2) {
+                    for (int c = 0; c < 4; c++) {
+                        int child = children[node * 4 + c];
+                        if (child != -1) stack[top++] = child;
+                    }
+                    continue;
+                }
+            }
+
+            if (d2 < 1e-9) {
+                // Nudge apart in a direction that depends only on the index
+                double angle = i * 2.399963229728653;
+                dx = Math.cos(angle) * 0.01;
+                dy = Math.sin(angle) * 0.01;
+                d2 = 1e-4;
+            }
+            double f = k2 * m / d2;
+            sumX += dx * f;
+            sumY += dy * f;
+        }
+        fx[i] += sumX;
+        fy[i] += sumY;
+    }
+
+    private int quadrant(int node, double px, double py) {
+        return (px >= centerX[node] ? 1 : 0) | (py >= centerY[node] ? 2 : 0);
+    }
+
+    private int newChild(int parent, int q, int point, double px, double py) {
+        double h = halfSize[parent] / 2;
+        double cx = centerX[parent] + ((q & 1) != 0 ? h : -h);
+        double cy = centerY[parent] + ((q & 2) != 0 ? h : -h);
+        int node = newNode(cx, cy, h, point, px, py);
+        mass[node] = 1;
+        return node;
+    }
+
+    private int newNode(double cx, double cy, double half, int point, double px, double py) {
+        if (nodeCount == body.length) {
+            grow();
+        }
+        int node = nodeCount++;
+        centerX[node] = cx;
+        centerY[node] = cy;
+        halfSize[node] = half;
+        body[node] = point;
+        internal[node] = false;
+        massX[node] = px;
+        massY[node] = py;
+        mass[node] = 0;
+        for (int c = 0; c < 4; c++) children[node * 4 + c] = -1;
+        return node;
+    }
+
+    private void allocate(int capacity) {
+        children = new int[capacity * 4];
+        body = new int[capacity];
+        internal = new boolean[capacity];
+        centerX = new double[capacity];
+        centerY = new double[capacity];
+        halfSize = new double[capacity];
+        massX = new double[capacity];
+        massY = new double[capacity];
+        mass = new double[capacity];
+    }
+
+    private void grow() {
+        int capacity = body.length * 2;
+        children = Arrays.copyOf(children, capacity * 4);
+        body = Arrays.copyOf(body, capacity);
+        internal = Arrays.copyOf(internal, capacity);
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        halfSize = Arrays.copyOf(halfSize, capacity);
+        massX = Arrays.copyOf(massX, capacity);
+        massY = Arrays.copyOf(massY, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+    }
+}
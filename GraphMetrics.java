@@ -0,0 +1,304 @@
+package javaprogram;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+// Centrality and distance metrics over a compressed snapshot of an
+// EdgeStore. Path metrics come from one BFS per source, run in parallel
+// over sources; each worker borrows a TraversalBuffer from a pool, so the
+// O(V) scratch arrays are allocated once per thread rather than per source.
+// Only the metrics that are asked for are computed.
+class GraphMetrics {
+    static final int SAMPLING_THRESHOLD = 5000;
+    static final int BETWEENNESS_SAMPLES = 256;
+    static final int DIAMETER_SWEEPS = 16;
+
+    private final int vertexCount;
+    private final boolean directed;
+    // Out-neighbors of v are outTargets[outStart[v] .. outStart[v + 1])
+    private final int[] outStart;
+    private final int[] outTargets;
+
+    private final ConcurrentLinkedQueue<TraversalBuffer> idleBuffers = new ConcurrentLinkedQueue<>();
+    private final List<TraversalBuffer> allBuffers = Collections.synchronizedList(new ArrayList<>());
+
+    private int[] eccentricity;
+    private double[] closeness;
+    private double[] betweenness;
+    private int diameter = -1;
+
+    public GraphMetrics(EdgeStore edges, int vertexCount, boolean directed) {
+        this.vertexCount = vertexCount;
+        this.directed = directed;
+
+        // Same neighbor order as GraphManager's traversals
+        outStart = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            int count = 0;
+            for (int k = 0; k < edges.getDegree(v); k++) {
+                if (!directed || edges.getFrom(edges.getIncidentEdge(v, k)) == v) count++;
+            }
+            outStart[v + 1] = outStart[v] + count;
+        }
+        outTargets = new int[outStart[vertexCount]];
+        for (int v = 0; v < vertexCount; v++) {
+            int pos = outStart[v];
+            for (int k = 0; k < edges.getDegree(v); k++) {
+                int e = edges.getIncidentEdge(v, k);
+                if (!directed || edges.getFrom(e) == v) outTargets[pos++] = edges.getOther(e, v);
+            }
+        }
+    }
+
+    public int getVertexCount() { return vertexCount; }
+    public int getOutDegree(int v) { return outStart[v + 1] - outStart[v]; }
+
+    // histogram[d] = number of vertices with out-degree d (degree if undirected)
+    public int[] degreeHistogram() {
+        int max = 0;
+        for (int v = 0; v < vertexCount; v++) max = Math.max(max, getOutDegree(v));
+        int[] histogram = new int[max + 1];
+        for (int v = 0; v < vertexCount; v++) histogram[getOutDegree(v)]++;
+        return histogram;
+    }
+
+    // Exact BFS from every vertex; fills whichever of the three are requested
+    public void computePathMetrics(boolean wantEccentricity, boolean wantCloseness, boolean wantBetweenness) {
+        if (!wantEccentricity && !wantCloseness && !wantBetweenness) return;
+        if (wantEccentricity) eccentricity = new int[vertexCount];
+        if (wantCloseness) closeness = new double[vertexCount];
+
+        IntStream.range(0, vertexCount).parallel().forEach(s -> {
+            TraversalBuffer buffer = acquire();
+            try {
+                int reached = buffer.bfs(s, wantBetweenness);
+                if (wantEccentricity) {
+                    eccentricity[s] = buffer.dist[buffer.order[reached - 1]];
+                }
+                if (wantCloseness) {
+                    closeness[s] = closeness(buffer, reached);
+                }
+                if (wantBetweenness) {
+                    buffer.accumulateDependencies(s, reached);
+                }
+                buffer.reset(reached);
+            } finally {
+                idleBuffers.add(buffer);
+            }
+        });
+
+        if (wantEccentricity) {
+            diameter = 0;
+            for (int e : eccentricity) diameter = Math.max(diameter, e);
+        }
+        if (wantBetweenness) {
+            betweenness = collectBetweenness(1.0);
+        }
+    }
+
+    // Brandes from a random sample of sources, scaled up to estimate the
+    // all-sources value
+    public void approximateBetweenness(int samples, long seed) {
+        int[] chosen = sampleVertices(samples, seed);
+        IntStream.range(0, chosen.length).parallel().forEach(i -> {
+            TraversalBuffer buffer = acquire();
+            try {
+                int reached = buffer.bfs(chosen[i], true);
+                buffer.accumulateDependencies(chosen[i], reached);
+                buffer.reset(reached);
+            } finally {
+                idleBuffers.add(buffer);
+            }
+        });
+        betweenness = collectBetweenness(chosen.length == 0 ? 1.0 : (double) vertexCount / chosen.length);
+    }
+
+    // Double sweep from random starts: BFS to the farthest vertex, then BFS
+    // again from there. Gives a lower bound that is usually exact in practice.
+    public void approximateDiameter(int sweeps, long seed) {
+        int[] starts = sampleVertices(sweeps, seed);
+        diameter = IntStream.range(0, starts.length).parallel().map(i -> {
+            TraversalBuffer buffer = acquire();
+            try {
+                int reached = buffer.bfs(starts[i], false);
+                int far = buffer.order[reached - 1];
+                buffer.reset(reached);
+                reached = buffer.bfs(far, false);
+                int ecc = buffer.dist[buffer.order[reached - 1]];
+                buffer.reset(reached);
+                return ecc;
+            } finally {
+                idleBuffers.add(buffer);
+            }
+        }).max().orElse(0);
+    }
+
+    // Power iteration; rank of dangling vertices is spread over all vertices
+    public double[] pageRank(double damping, int maxIterations, double tolerance) {
+        int n = vertexCount;
+        if (n == 0) return new double[0];
+
+        // Pull formulation needs in-neighbors
+        int[] inStart = new int[n + 1];
+        for (int t : outTargets) inStart[t + 1]++;
+        for (int v = 0; v < n; v++) inStart[v + 1] += inStart[v];
+        int[] inSources = new int[outTargets.length];
+        int[] fill = Arrays.copyOf(inStart, n);
+        for (int u = 0; u < n; u++) {
+            for (int k = outStart[u]; k < outStart[u + 1]; k++) {
+                inSources[fill[outTargets[k]]++] = u;
+            }
+        }
+
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+
+        for (int iter = 0; iter < maxIterations; iter++) {
+            double dangling = 0;
+            for (int u = 0; u < n; u++) {
+                int degree = getOutDegree(u);
+                if (degree == 0) {
+                    dangling += rank[u];
+                    share[u] = 0;
+                } else {
+                    share[u] = rank[u] / degree;
+                }
+            }
+            double base = (1 - damping) / n + damping * dangling / n;
+            double[] current = next;
+            IntStream.range(0, n).parallel().forEach(v -> {
+                double sum = 0;
+                for (int k = inStart[v]; k < inStart[v + 1]; k++) sum += share[inSources[k]];
+                current[v] = base + damping * sum;
+            });
+
+            double change = 0;
+            for (int v = 0; v < n; v++) change += Math.abs(next[v] - rank[v]);
+            double[] t = rank;
+            rank = next;
+            next = t;
+            if (change < tolerance) break;
+        }
+        return rank;
+    }
+
+    public int[] getEccentricity() { return eccentricity; }
+    public double[] getCloseness() { return closeness; }
+    public double[] getBetweenness() { return betweenness; }
+    public int getDiameter() { return diameter; }
+
+    // Wasserman-Faust closeness, so vertices in small components are not
+    // ranked above well-connected ones
+    private double closeness(TraversalBuffer buffer, int reached) {
+        if (reached <= 1 || vertexCount <= 1) return 0;
+        long total = 0;
+        for (int i = 1; i < reached; i++) total += buffer.dist[buffer.order[i]];
+        double r = reached - 1;
+        return (r / (vertexCount - 1)) * (r / total);
+    }
+
+    private double[] collectBetweenness(double scale) {
+        double[] result = new double[vertexCount];
+        synchronized (allBuffers) {
+            for (TraversalBuffer buffer : allBuffers) {
+                for (int v = 0; v < vertexCount; v++) {
+                    result[v] += buffer.partialBetweenness[v];
+                    buffer.partialBetweenness[v] = 0;
+                }
+            }
+        }
+        // Each undirected pair is counted once from either end
+        if (!directed) scale /= 2;
+        for (int v = 0; v < vertexCount; v++) result[v] *= scale;
+        return result;
+    }
+
+    private int[] sampleVertices(int samples, long seed) {
+        if (samples >= vertexCount) {
+            return IntStream.range(0, vertexCount).toArray();
+        }
+        // Partial Fisher-Yates shuffle
+        int[] all = IntStream.range(0, vertexCount).toArray();
+        Random random = new Random(seed);
+        for (int i = 0; i < samples; i++) {
+            int j = i + random.nextInt(vertexCount - i);
+            int t = all[i];
+            all[i] = all[j];
+            all[j] = t;
+        }
+        return Arrays.copyOf(all, samples);
+    }
+
+    private TraversalBuffer acquire() {
+        TraversalBuffer buffer = idleBuffers.poll();
+        if (buffer == null) {
+            buffer = new TraversalBuffer();
+            allBuffers.add(buffer);
+        }
+        return buffer;
+    }
+
+    // Scratch space for one BFS at a time. Arrays stay at their reset values
+    // between searches, and reset only touches the vertices a search reached,
+    // so sampled runs on large sparse graphs stay proportional to their reach.
+    class TraversalBuffer {
+        final int[] dist = new int[vertexCount];
+        final int[] order = new int[vertexCount];
+        final double[] sigma = new double[vertexCount];
+        final double[] delta = new double[vertexCount];
+        final double[] partialBetweenness = new double[vertexCount];
+
+        TraversalBuffer() {
+            Arrays.fill(dist, -1);
+        }
+
+        // Returns the number of vertices reached; order holds them in BFS order
+        int bfs(int source, boolean countPaths) {
+            int head = 0, tail = 0;
+            dist[source] = 0;
+            sigma[source] = 1;
+            order[tail++] = source;
+            while (head < tail) {
+                int v = order[head++];
+                int next = dist[v] + 1;
+                for (int k = outStart[v]; k < outStart[v + 1]; k++) {
+                    int w = outTargets[k];
+                    if (dist[w] < 0) {
+                        dist[w] = next;
+                        order[tail++] = w;
+                    }
+                    if (countPaths && dist[w] == next) {
+                        sigma[w] += sigma[v];
+                    }
+                }
+            }
+            return tail;
+        }
+
+        // Brandes back-propagation in reverse BFS order
+        void accumulateDependencies(int source, int reached) {
+            for (int i = reached - 1; i >= 0; i--) {
+                int v = order[i];
+                int next = dist[v] + 1;
+                double sum = 0;
+                for (int k = outStart[v]; k < outStart[v + 1]; k++) {
+                    int w = outTargets[k];
+                    if (dist[w] == next) sum += (1 + delta[w]) / sigma[w];
+                }
+                delta[v] = sigma[v] * sum;
+                if (v != source) partialBetweenness[v] += delta[v];
+            }
+        }
+
+        void reset(int reached) {
+            for (int i = 0; i < reached; i++) {
+                int v = order[i];
+                dist[v] = -1;
+                sigma[v] = 0;
+                delta[v] = 0;
+            }
+        }
+    }
+}
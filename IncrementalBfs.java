@@ -0,0 +1,96 @@
+package javaprogram;
+import java.util.Arrays;
+
+// Hop distances and BFS parents from one source, kept current while edges
+// are inserted. An insertion can only shorten distances, so a new edge
+// a -> b matters only when it gives b a shorter route; from there the
+// improvement spreads outward as a BFS that stops at every vertex whose
+// distance does not change. Deletions can lengthen distances, which this
+// does not track, so callers rebuild after them.
+class IncrementalBfs {
+    private final EdgeStore edges;
+    private int vertexCount;
+    private boolean directed;
+    private int[] dist;      // -1 when unreachable
+    private int[] parent;    // -1 for the source and unreachable vertices
+    private int[] queue;
+
+    public IncrementalBfs(EdgeStore edges) {
+        this.edges = edges;
+        dist = new int[0];
+        parent = new int[0];
+        queue = new int[0];
+    }
+
+    // Full BFS; O(V + E)
+    public void rebuild(int source, int vertexCount, boolean directed) {
+        this.vertexCount = vertexCount;
+        this.directed = directed;
+        if (dist.length < vertexCount) {
+            dist = new int[vertexCount];
+            parent = new int[vertexCount];
+            queue = new int[vertexCount];
+        }
+        Arrays.fill(dist, 0, vertexCount, -1);
+        Arrays.fill(parent, 0, vertexCount, -1);
+        dist[source] = 0;
+        queue[0] = source;
+        propagate(1);
+    }
+
+    // A vertex appended at the end of the index range starts out unreachable
+    public void vertexAppended() {
+        if (vertexCount == dist.length) {
+            int size = Math.max(16, vertexCount * 2);
+            dist = Arrays.copyOf(dist, size);
+            parent = Arrays.copyOf(parent, size);
+            queue = Arrays.copyOf(queue, size);
+        }
+        dist[vertexCount] = -1;
+        parent[vertexCount] = -1;
+        vertexCount++;
+    }
+
+    // Repairs levels after edge e was added; touches only improved vertices
+    public void edgeAdded(int e) {
+        int u = edges.getFrom(e);
+        int v = edges.getTo(e);
+        int tail = relax(u, v, 0);
+        if (!directed) tail = relax(v, u, tail);
+        if (tail > 0) propagate(tail);
+    }
+
+    public int getDistance(int v) { return dist[v]; }
+    public int getParent(int v) { return parent[v]; }
+
+    // Queues b if the edge a -> b shortens its distance
+    private int relax(int a, int b, int tail) {
+        if (dist[a] < 0) return tail;
+        if (dist[b] >= 0 && dist[b] <= dist[a] + 1) return tail;
+        dist[b] = dist[a] + 1;
+        parent[b] = a;
+        queue[tail++] = b;
+        return tail;
+    }
+
+    // FIFO order settles vertices level by level, so each is queued at most
+    // once per call
+    private void propagate(int tail) {
+        int head = 0;
+        while (head < tail) {
+            int x = queue[head++];
+            int next = dist[x] + 1;
+            for (int k = 0; k < edges.getDegree(x); k++) {
+                int e = edges.getIncidentEdge(x, k);
+                int from = edges.getFrom(e);
+                if (directed && from != x) continue;
+                int y = from == x ? edges.getTo(e) : from;
+                if (dist[y] < 0 || dist[y] > next) {
+                    dist[y] = next;
+                    parent[y] = x;
+                    queue[tail++] = y;
+                }
+            }
+        }
+    }
+}
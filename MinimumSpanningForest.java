@@ -0,0 +1,241 @@
+package javaprogram;
+import java.util.Arrays;
+
+// Minimum spanning forest of the graph treated as undirected. Kruskal sorts
+// packed (weight, edge id) keys with Arrays.parallelSort and joins trees with
+// a union-find; Prim grows each tree from an indexed binary heap. Both are
+// O(E log V), but Kruskal must build and sort a key for every edge, while
+// Prim's heap never holds more than V entries and most edges of a dense
+// graph are rejected by a key comparison without touching the heap. Sparse
+// graphs therefore go to Kruskal and dense ones to Prim.
+class MinimumSpanningForest {
+    enum Algorithm { KRUSKAL, PRIM }
+
+    private final EdgeStore edges;
+    private final int vertexCount;
+
+    private Algorithm algorithm;
+    private int[] treeEdges;
+    private int treeEdgeCount;
+    private long totalWeight;
+    private int componentCount;
+    private int[] componentOf;
+    private long[] componentWeight;
+
+    public MinimumSpanningForest(EdgeStore edges, int vertexCount) {
+        this.edges = edges;
+        this.vertexCount = vertexCount;
+    }
+
+    // Heuristic cutoff: Prim once the average degree (2E / V) reaches
+    // 4 * log2 of the vertex count
+    public static Algorithm chooseAlgorithm(int vertexCount, int edgeCount) {
+        if (vertexCount < 2) return Algorithm.KRUSKAL;
+        int log2 = 32 - Integer.numberOfLeadingZeros(vertexCount - 1);
+        return (long) edgeCount * 2 >= (long) vertexCount * log2 * 4 ? Algorithm.PRIM : Algorithm.KRUSKAL;
+    }
+
+    public void compute() {
+        compute(chooseAlgorithm(vertexCount, edges.getEdgeCount()));
+    }
+
+    public void compute(Algorithm algorithm) {
+        this.algorithm = algorithm;
+        treeEdges = new int[Math.max(0, vertexCount - 1)];
+        treeEdgeCount = 0;
+        componentOf = new int[vertexCount];
+        if (algorithm == Algorithm.PRIM) {
+            prim();
+        } else {
+            kruskal();
+        }
+
+        componentWeight = new long[componentCount];
+        totalWeight = 0;
+        for (int i = 0; i < treeEdgeCount; i++) {
+            int e = treeEdges[i];
+            componentWeight[componentOf[edges.getFrom(e)]] += edges.getWeight(e);
+            totalWeight += edges.getWeight(e);
+        }
+    }
+
+    private void kruskal() {
+        // High half: weight (signed, so ordering holds), low half: edge id
+        long[] keys = new long[edges.getEdgeCount()];
+        int m = 0;
+        for (int e = 0; e < edges.getEdgeIdLimit(); e++) {
+            if (edges.isLive(e) && edges.getFrom(e) != edges.getTo(e)) {
+                keys[m++] = ((long) edges.getWeight(e) << 32) | e;
+            }
+        }
+        Arrays.parallelSort(keys, 0, m);
+
+        UnionFind forest = new UnionFind(vertexCount);
+        for (int i = 0; i < m && treeEdgeCount < vertexCount - 1; i++) {
+            int e = (int) keys[i];
+            if (forest.union(edges.getFrom(e), edges.getTo(e))) {
+                treeEdges[treeEdgeCount++] = e;
+            }
+        }
+
+        // Number components by their smallest vertex
+        int[] idOfRoot = new int[vertexCount];
+        Arrays.fill(idOfRoot, -1);
+        componentCount = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int root = forest.find(v);
+            if (idOfRoot[root] < 0) idOfRoot[root] = componentCount++;
+            componentOf[v] = idOfRoot[root];
+        }
+    }
+
+    private void prim() {
+        long[] key = new long[vertexCount];
+        int[] parentEdge = new int[vertexCount];
+        boolean[] inTree = new boolean[vertexCount];
+        Arrays.fill(key, Long.MAX_VALUE);
+        Arrays.fill(parentEdge, -1);
+        IndexedMinHeap heap = new IndexedMinHeap(vertexCount);
+        componentCount = 0;
+
+        for (int s = 0; s < vertexCount; s++) {
+            if (inTree[s]) continue;
+            int component = componentCount++;
+            key[s] = 0;
+            heap.push(s, 0);
+
+            while (!heap.isEmpty()) {
+                int u = heap.pop();
+                inTree[u] = true;
+                componentOf[u] = component;
+                if (parentEdge[u] >= 0) treeEdges[treeEdgeCount++] = parentEdge[u];
+
+                for (int k = 0; k < edges.getDegree(u); k++) {
+                    int e = edges.getIncidentEdge(u, k);
+                    int w = edges.getOther(e, u);
+                    if (inTree[w] || edges.getWeight(e) >= key[w]) continue;
+                    key[w] = edges.getWeight(e);
+                    parentEdge[w] = e;
+                    heap.pushOrDecrease(w, key[w]);
+                }
+            }
+        }
+    }
+
+    public Algorithm getAlgorithm() { return algorithm; }
+    public long getTotalWeight() { return totalWeight; }
+    public int getComponentCount() { return componentCount; }
+    public int getComponentOf(int vertex) { return componentOf[vertex]; }
+    public long getComponentWeight(int component) { return componentWeight[component]; }
+    public int[] getTreeEdges() { return Arrays.copyOf(treeEdges, treeEdgeCount); }
+}
+
+// Disjoint sets over 0..n-1 with union by size and path halving
+class UnionFind {
+    private final int[] parent;
+    private final int[] size;
+
+    public UnionFind(int n) {
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+    }
+
+    public int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    // False when a and b were already in the same set
+    public boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) return false;
+        if (size[ra] < size[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        return true;
+    }
+}
+
+// Binary min-heap over items 0..n-1 with long keys and decrease-key
+class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] pos;     // item -> slot in heap, -1 when absent
+    private final long[] keys;
+    private int size;
+
+    public IndexedMinHeap(int n) {
+        heap = new int[n];
+        pos = new int[n];
+        keys = new long[n];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void push(int item, long key) {
+        keys[item] = key;
+        heap[size] = item;
+        pos[item] = size;
+        siftUp(size++);
+    }
+
+    public void pushOrDecrease(int item, long key) {
+        if (pos[item] < 0) {
+            push(item, key);
+        } else if (key < keys[item]) {
+            keys[item] = key;
+            siftUp(pos[item]);
+        }
+    }
+
+    public int pop() {
+        int top = heap[0];
+        pos[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int item = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[heap[parent]] <= keys[item]) break;
+            heap[i] = heap[parent];
+            pos[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = item;
+        pos[item] = i;
+    }
+
+    private void siftDown(int i) {
+        int item = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) child++;
+            if (keys[heap[child]] >= keys[item]) break;
+            heap[i] = heap[child];
+            pos[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = item;
+        pos[item] = i;
+    }
+}
@@ -5,15 +5,19 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class VisualGraphAnalyzer extends JFrame {
     private GraphCanvas canvas;
     private JTextArea outputArea;
     private JRadioButton directedBtn, undirectedBtn, weightedBtn, unweightedBtn;
-    private JButton addEdgeBtn, analyzeBtn, clearBtn, undoBtn;
+    private JButton addEdgeBtn, analyzeBtn, layoutBtn, clearBtn, undoBtn;
+    private JCheckBox degreeBox, eccentricityBox, closenessBox, betweennessBox, pageRankBox, sampleBox;
     private JLabel statusLabel;
     private GraphManager graphManager;
     private Stack<GraphAction> actionHistory;
+    private static final int MAX_LISTED_TREE_EDGES = 200;
+    private static final int MAX_LISTED_VERTICES = 10;
 
     public VisualGraphAnalyzer() {
         setTitle("Visual Graph Drawing & Analysis System");
@@ -43,7 +47,7 @@ public class VisualGraphAnalyzer extends JFrame {
         JScrollPane canvasScroll = new JScrollPane(canvas);
         canvasScroll.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(Color.BLUE, 2),
-            "Drawing Canvas (Click to Add Vertices)",
+            "Drawing Canvas (Click to Add Vertices, Right-Click to Pin BFS Source)",
             TitledBorder.LEFT,
             TitledBorder.TOP,
             new Font("Arial", Font.BOLD, 14),
@@ -82,6 +86,8 @@ public class VisualGraphAnalyzer extends JFrame {
         directedBtn = new JRadioButton("Directed");
         typeGroup.add(undirectedBtn);
         typeGroup.add(directedBtn);
+        undirectedBtn.addActionListener(e -> directionChanged());
+        directedBtn.addActionListener(e -> directionChanged());
         configPanel.add(undirectedBtn);
         configPanel.add(directedBtn);
         
@@ -109,6 +115,9 @@ public class VisualGraphAnalyzer extends JFrame {
         analyzeBtn = createStyledButton("Analyze Graph", new Color(100, 220, 100));
         analyzeBtn.addActionListener(e -> analyzeGraph());
         
+        layoutBtn = createStyledButton("Auto Layout", new Color(255, 220, 100));
+        layoutBtn.addActionListener(e -> toggleLayout());
+        
         undoBtn = createStyledButton("Undo", new Color(200, 150, 255));
         undoBtn.addActionListener(e -> undoLastAction());
         
@@ -117,6 +126,7 @@ public class VisualGraphAnalyzer extends JFrame {
         
         buttonPanel.add(addEdgeBtn);
         buttonPanel.add(analyzeBtn);
+        buttonPanel.add(layoutBtn);
         buttonPanel.add(undoBtn);
         buttonPanel.add(clearBtn);
         
@@ -156,9 +166,34 @@ public class VisualGraphAnalyzer extends JFrame {
         JScrollPane scrollPane = new JScrollPane(outputArea);
         panel.add(scrollPane, BorderLayout.CENTER);
         
+        // Metrics to include in the next analysis
+        JPanel metricsPanel = new JPanel(new GridLayout(0, 3, 5, 0));
+        metricsPanel.setBorder(new EmptyBorder(0, 5, 5, 5));
+        degreeBox = new JCheckBox("Degree Distribution", true);
+        eccentricityBox = new JCheckBox("Eccentricity / Diameter");
+        closenessBox = new JCheckBox("Closeness");
+        betweennessBox = new JCheckBox("Betweenness");
+        pageRankBox = new JCheckBox("PageRank");
+        sampleBox = new JCheckBox("Sample Large Graphs", true);
+        sampleBox.setToolTipText("Approximate diameter and betweenness above "
+            + GraphMetrics.SAMPLING_THRESHOLD + " vertices");
+        metricsPanel.add(degreeBox);
+        metricsPanel.add(eccentricityBox);
+        metricsPanel.add(closenessBox);
+        metricsPanel.add(betweennessBox);
+        metricsPanel.add(pageRankBox);
+        metricsPanel.add(sampleBox);
+        panel.add(metricsPanel, BorderLayout.NORTH);
+        
         return panel;
     }
 
+    // Keeps live BFS distances in step with the selected graph type
+    private void directionChanged() {
+        graphManager.setDirected(directedBtn.isSelected());
+        canvas.repaint();
+    }
+
     private void toggleEdgeMode() {
         canvas.toggleEdgeMode();
         if (canvas.isEdgeMode()) {
@@ -172,6 +207,22 @@ public class VisualGraphAnalyzer extends JFrame {
         }
     }
 
+    private void toggleLayout() {
+        if (canvas.isLayoutRunning()) {
+            canvas.stopLayout();
+            statusLabel.setText("Auto layout stopped.");
+        } else if (canvas.startLayout()) {
+            layoutBtn.setText("Stop Layout");
+            layoutBtn.setBackground(new Color(255, 150, 100));
+            statusLabel.setText("Auto layout running...");
+        }
+    }
+
+    private void layoutFinished() {
+        layoutBtn.setText("Auto Layout");
+        layoutBtn.setBackground(new Color(255, 220, 100));
+    }
+
     private void undoLastAction() {
         if (actionHistory.isEmpty()) {
             JOptionPane.showMessageDialog(this,
@@ -188,11 +239,11 @@ public class VisualGraphAnalyzer extends JFrame {
             graphManager.removeVertex(action.vertexId);
             statusLabel.setText("Undone: Removed vertex " + action.vertexId);
         } else if (action.type == ActionType.ADD_EDGE) {
-            canvas.removeLastEdge();
-            graphManager.removeEdge(action.fromVertex, action.toVertex);
+            graphManager.removeEdge(action.edgeId);
             statusLabel.setText("Undone: Removed edge " + action.fromVertex + " -> " + action.toVertex);
         }
         
+        canvas.clearHighlight();
         canvas.repaint();
     }
 
@@ -234,8 +285,8 @@ public class VisualGraphAnalyzer extends JFrame {
         output.append("  > BFS (Breadth-First Search) - Possible\n");
         output.append("  > DFS (Depth-First Search) - Possible\n\n");
         
-        // Get all vertices sorted
-        List<Integer> allVertices = graphManager.getAllVerticesSorted();
+        // Vertex labels, already in ascending order
+        int[] allVertices = graphManager.getVertexLabels();
         
         // BFS Traversal Paths from all vertices
         if (graphManager.getVertexCount() > 0) {
@@ -243,15 +294,15 @@ public class VisualGraphAnalyzer extends JFrame {
             output.append("-----------------------------------------------\n");
             
             for (int startVertex : allVertices) {
-                List<Integer> bfsResult = graphManager.bfs(startVertex);
+                int[] bfsResult = graphManager.bfs(startVertex);
                 output.append(String.format("  From Node %d: ", startVertex));
                 
-                if (bfsResult.isEmpty()) {
+                if (bfsResult.length == 0) {
                     output.append("No path (isolated vertex)");
                 } else {
-                    for (int i = 0; i < bfsResult.size(); i++) {
-                        output.append(bfsResult.get(i));
-                        if (i < bfsResult.size() - 1) output.append(" -> ");
+                    for (int i = 0; i < bfsResult.length; i++) {
+                        output.append(bfsResult[i]);
+                        if (i < bfsResult.length - 1) output.append(" -> ");
                     }
                 }
                 output.append("\n");
@@ -263,15 +314,15 @@ public class VisualGraphAnalyzer extends JFrame {
             output.append("-----------------------------------------------\n");
             
             for (int startVertex : allVertices) {
-                List<Integer> dfsResult = graphManager.dfs(startVertex);
+                int[] dfsResult = graphManager.dfs(startVertex);
                 output.append(String.format("  From Node %d: ", startVertex));
                 
-                if (dfsResult.isEmpty()) {
+                if (dfsResult.length == 0) {
                     output.append("No path (isolated vertex)");
                 } else {
-                    for (int i = 0; i < dfsResult.size(); i++) {
-                        output.append(dfsResult.get(i));
-                        if (i < dfsResult.size() - 1) output.append(" -> ");
+                    for (int i = 0; i < dfsResult.length; i++) {
+                        output.append(dfsResult[i]);
+                        if (i < dfsResult.length - 1) output.append(" -> ");
                     }
                 }
                 output.append("\n");
@@ -279,6 +330,14 @@ public class VisualGraphAnalyzer extends JFrame {
             output.append("\n");
         }
         
+        // Minimum spanning forest for weighted graphs
+        canvas.clearHighlight();
+        if (graphManager.isWeighted()) {
+            appendSpanningForest(output);
+        }
+        
+        appendMetrics(output);
+        
         output.append("\n===============================================\n");
         
         outputArea.setText(output.toString());
@@ -287,6 +346,143 @@ public class VisualGraphAnalyzer extends JFrame {
         statusLabel.setText("Graph analysis completed successfully!");
     }
 
+    private void appendSpanningForest(StringBuilder output) {
+        output.append("MINIMUM SPANNING FOREST:\n");
+        output.append("-----------------------------------------------\n");
+        
+        if (graphManager.isDirected()) {
+            output.append("  Not available: requires an undirected graph\n\n");
+            return;
+        }
+        
+        MinimumSpanningForest forest = graphManager.computeSpanningForest();
+        EdgeStore store = graphManager.getEdgeStore();
+        output.append(String.format("  * Algorithm: %s\n",
+            forest.getAlgorithm() == MinimumSpanningForest.Algorithm.PRIM ? "Prim" : "Kruskal"));
+        output.append(String.format("  * Total Weight: %d\n", forest.getTotalWeight()));
+        output.append(String.format("  * Trees: %d\n", forest.getComponentCount()));
+        
+        // Group tree edges by component for the listing
+        int[] treeEdges = forest.getTreeEdges();
+        List<List<Integer>> byComponent = new ArrayList<>();
+        for (int c = 0; c < forest.getComponentCount(); c++) {
+            byComponent.add(new ArrayList<>());
+        }
+        for (int e : treeEdges) {
+            byComponent.get(forest.getComponentOf(store.getFrom(e))).add(e);
+        }
+        
+        int listed = 0;
+        for (int c = 0; c < forest.getComponentCount() && listed < MAX_LISTED_TREE_EDGES; c++) {
+            List<Integer> component = byComponent.get(c);
+            output.append(String.format("  Tree %d (weight %d): ", c + 1, forest.getComponentWeight(c)));
+            if (component.isEmpty()) {
+                output.append("No edges (isolated vertex)");
+            }
+            for (int i = 0; i < component.size() && listed < MAX_LISTED_TREE_EDGES; i++, listed++) {
+                int e = component.get(i);
+                output.append(String.format("%d-%d(%d)",
+                    graphManager.getVertexLabel(store.getFrom(e)),
+                    graphManager.getVertexLabel(store.getTo(e)),
+                    store.getWeight(e)));
+                if (i < component.size() - 1 && listed + 1 < MAX_LISTED_TREE_EDGES) output.append(", ");
+            }
+            output.append("\n");
+        }
+        if (listed < treeEdges.length) {
+            output.append(String.format("  ... %d tree edges in total\n", treeEdges.length));
+        }
+        output.append("\n");
+        
+        canvas.highlightEdges(treeEdges);
+    }
+
+    private void appendMetrics(StringBuilder output) {
+        boolean wantDegree = degreeBox.isSelected();
+        boolean wantEccentricity = eccentricityBox.isSelected();
+        boolean wantCloseness = closenessBox.isSelected();
+        boolean wantBetweenness = betweennessBox.isSelected();
+        boolean wantPageRank = pageRankBox.isSelected();
+        if (!wantDegree && !wantEccentricity && !wantCloseness && !wantBetweenness && !wantPageRank) {
+            return;
+        }
+        
+        GraphMetrics metrics = new GraphMetrics(graphManager.getEdgeStore(),
+            graphManager.getVertexCount(), graphManager.isDirected());
+        boolean sample = sampleBox.isSelected()
+            && graphManager.getVertexCount() > GraphMetrics.SAMPLING_THRESHOLD;
+        
+        // Exact per-vertex metrics share one BFS per source
+        metrics.computePathMetrics(wantEccentricity && !sample, wantCloseness, wantBetweenness && !sample);
+        if (sample && wantEccentricity) {
+            metrics.approximateDiameter(GraphMetrics.DIAMETER_SWEEPS, 1L);
+        }
+        if (sample && wantBetweenness) {
+            metrics.approximateBetweenness(GraphMetrics.BETWEENNESS_SAMPLES, 1L);
+        }
+        
+        output.append("GRAPH METRICS:\n");
+        output.append("-----------------------------------------------\n");
+        
+        if (wantDegree) {
+            int[] histogram = metrics.degreeHistogram();
+            output.append(graphManager.isDirected()
+                ? "  Out-Degree Distribution (degree: vertices):\n"
+                : "  Degree Distribution (degree: vertices):\n");
+            for (int d = 0; d < histogram.length; d++) {
+                if (histogram[d] > 0) {
+                    output.append(String.format("    %d: %d\n", d, histogram[d]));
+                }
+            }
+        }
+        
+        if (wantEccentricity) {
+            if (sample) {
+                output.append(String.format("  Diameter (estimated from %d sweeps): >= %d\n",
+                    GraphMetrics.DIAMETER_SWEEPS, metrics.getDiameter()));
+            } else {
+                output.append(String.format("  Diameter: %d\n", metrics.getDiameter()));
+                int[] eccentricity = metrics.getEccentricity();
+                double[] values = new double[eccentricity.length];
+                for (int v = 0; v < values.length; v++) values[v] = eccentricity[v];
+                appendVertexRanking(output, "Eccentricity (within reach)", values, "%.0f");
+            }
+        }
+        
+        if (wantCloseness) {
+            appendVertexRanking(output, "Closeness", metrics.getCloseness(), "%.4f");
+        }
+        
+        if (wantBetweenness) {
+            appendVertexRanking(output, sample
+                ? "Betweenness (estimated from " + GraphMetrics.BETWEENNESS_SAMPLES + " sources)"
+                : "Betweenness", metrics.getBetweenness(), "%.2f");
+        }
+        
+        if (wantPageRank) {
+            appendVertexRanking(output, "PageRank", metrics.pageRank(0.85, 100, 1e-10), "%.4f");
+        }
+        output.append("\n");
+    }
+
+    // Highest values first; small graphs are listed in full
+    private void appendVertexRanking(StringBuilder output, String title, double[] values, String format) {
+        int n = values.length;
+        Integer[] order = new Integer[n];
+        for (int v = 0; v < n; v++) order[v] = v;
+        Arrays.sort(order, (a, b) -> Double.compare(values[b], values[a]));
+        
+        int shown = n <= 2 * MAX_LISTED_VERTICES ? n : MAX_LISTED_VERTICES;
+        output.append(shown == n
+            ? String.format("  %s:\n", title)
+            : String.format("  %s (top %d):\n", title, shown));
+        for (int i = 0; i < shown; i++) {
+            int v = order[i];
+            output.append(String.format("    Node %d: " + format + "\n",
+                graphManager.getVertexLabel(v), values[v]));
+        }
+    }
+
     private void clearAll() {
         int response = JOptionPane.showConfirmDialog(this,
             "Are you sure you want to clear the entire graph?",
@@ -294,6 +490,7 @@ public class VisualGraphAnalyzer extends JFrame {
             JOptionPane.YES_NO_OPTION);
         
         if (response == JOptionPane.YES_OPTION) {
+            canvas.stopLayout();
             graphManager.clear();
             canvas.clear();
             outputArea.setText("");
@@ -303,21 +500,25 @@ public class VisualGraphAnalyzer extends JFrame {
     }
 
     // Inner Class: Graph Canvas
+    // Edges are drawn straight from GraphManager's EdgeStore. Its endpoints are
+    // dense vertex indices, which line up with positions in 'vertices' since
+    // both are in label order and only the newest vertex is ever removed.
     class GraphCanvas extends JPanel {
         private List<Vertex> vertices;
-        private List<Edge> edges;
         private boolean edgeMode;
         private Vertex selectedVertex1;
         private Vertex selectedVertex2;
-        private int vertexCounter;
+        // Written on the EDT, read by layout threads when publishing
+        private volatile ForceDirectedLayout layout;
+        private Vertex[] layoutVertices;
+        private BitSet highlightedEdges = new BitSet();
+        private final AtomicReference<LayoutFrame> pendingPositions = new AtomicReference<>();
 
         public GraphCanvas() {
             setPreferredSize(new Dimension(800, 600));
             setBackground(Color.WHITE);
             vertices = new ArrayList<>();
-            edges = new ArrayList<>();
             edgeMode = false;
-            vertexCounter = 0;
             
             addMouseListener(new MouseAdapter() {
                 @Override
@@ -328,6 +529,13 @@ public class VisualGraphAnalyzer extends JFrame {
         }
 
         private void handleMouseClick(MouseEvent e) {
+            if (SwingUtilities.isRightMouseButton(e)) {
+                Vertex clicked = findVertexAt(e.getX(), e.getY());
+                if (clicked != null) {
+                    togglePinnedSource(clicked);
+                }
+                return;
+            }
             if (edgeMode) {
                 // Check if clicked on a vertex
                 Vertex clicked = findVertexAt(e.getX(), e.getY());
@@ -353,12 +561,12 @@ public class VisualGraphAnalyzer extends JFrame {
         }
 
         private void addVertex(int x, int y) {
-            vertexCounter++;
-            Vertex v = new Vertex(vertexCounter, x, y);
+            clearHighlight();
+            int id = graphManager.addVertex();
+            Vertex v = new Vertex(id, x, y);
             vertices.add(v);
-            graphManager.addVertex(vertexCounter);
-            actionHistory.push(new GraphAction(ActionType.ADD_VERTEX, vertexCounter, 0, 0));
-            statusLabel.setText("Vertex " + vertexCounter + " added. Total vertices: " + vertices.size());
+            actionHistory.push(new GraphAction(ActionType.ADD_VERTEX, id, 0, 0, -1));
+            statusLabel.setText("Vertex " + id + " added. Total vertices: " + vertices.size());
             repaint();
         }
 
@@ -388,9 +596,10 @@ public class VisualGraphAnalyzer extends JFrame {
                 }
             }
             
-            Edge edge = new Edge(selectedVertex1, selectedVertex2, weight);
-            edges.add(edge);
-            graphManager.addEdge(selectedVertex1.id, selectedVertex2.id, weight);
+            clearHighlight();
+            int edgeId = graphManager.addEdge(selectedVertex1.id, selectedVertex2.id, weight);
+            actionHistory.push(new GraphAction(ActionType.ADD_EDGE, 0,
+                selectedVertex1.id, selectedVertex2.id, edgeId));
             
             statusLabel.setText("Edge added: " + selectedVertex1.id + " → " + selectedVertex2.id + 
                 (weightedBtn.isSelected() ? " (weight: " + weight + ")" : ""));
@@ -398,6 +607,19 @@ public class VisualGraphAnalyzer extends JFrame {
             resetSelection();
         }
 
+        private void togglePinnedSource(Vertex vertex) {
+            if (graphManager.hasPinnedSource() && graphManager.getPinnedSource() == vertex.id) {
+                graphManager.unpinSource();
+                statusLabel.setText("BFS source unpinned.");
+            } else {
+                graphManager.setDirected(directedBtn.isSelected());
+                graphManager.pinSource(vertex.id);
+                statusLabel.setText("BFS source pinned at vertex " + vertex.id
+                    + ". Distances update as edges are added.");
+            }
+            repaint();
+        }
+
         public void toggleEdgeMode() {
             edgeMode = !edgeMode;
             if (!edgeMode) {
@@ -429,23 +651,130 @@ public class VisualGraphAnalyzer extends JFrame {
             return null;
         }
 
-        public void removeLastVertex() {
-            if (!vertices.isEmpty()) {
-                vertices.remove(vertices.size() - 1);
-                vertexCounter--;
+        public boolean isLayoutRunning() {
+            return layout != null;
+        }
+
+        public boolean startLayout() {
+            if (layout != null || vertices.isEmpty()) return false;
+            
+            // Snapshot the current drawing; edits made while the layout runs
+            // are left where the user put them
+            layoutVertices = vertices.toArray(new Vertex[0]);
+            double[] xs = new double[layoutVertices.length];
+            double[] ys = new double[layoutVertices.length];
+            for (int i = 0; i < layoutVertices.length; i++) {
+                xs[i] = layoutVertices[i].x;
+                ys[i] = layoutVertices[i].y;
+            }
+            EdgeStore store = graphManager.getEdgeStore();
+            int[] from = new int[store.getEdgeCount()];
+            int[] to = new int[store.getEdgeCount()];
+            int count = 0;
+            for (int e = 0; e < store.getEdgeIdLimit(); e++) {
+                if (!store.isLive(e)) continue;
+                from[count] = store.getFrom(e);
+                to[count] = store.getTo(e);
+                count++;
             }
+            
+            layout = new ForceDirectedLayout(xs, ys, from, to,
+                (source, px, py, finished) -> publishPositions(new LayoutFrame(source, px, py, finished)));
+            layout.start();
+            return true;
         }
 
-        public void removeLastEdge() {
-            if (!edges.isEmpty()) {
-                edges.remove(edges.size() - 1);
+        public void stopLayout() {
+            if (layout != null) {
+                layout.stop();
+                layout = null;
+                layoutVertices = null;
+                pendingPositions.set(null);
+                layoutFinished();
+            }
+        }
+
+        // Layout thread: keep only the newest snapshot and schedule at most
+        // one EDT update at a time. A frame never displaces one from the
+        // current layout unless it comes from that layout too.
+        private void publishPositions(LayoutFrame frame) {
+            while (true) {
+                LayoutFrame pending = pendingPositions.get();
+                if (pending != null && pending.source != frame.source && pending.source == layout) {
+                    return;
+                }
+                if (pendingPositions.compareAndSet(pending, frame)) {
+                    if (pending == null) {
+                        SwingUtilities.invokeLater(this::applyPendingPositions);
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void applyPendingPositions() {
+            LayoutFrame frame = pendingPositions.getAndSet(null);
+            // Frames from a layout that was stopped or replaced are dropped
+            if (frame == null || frame.source != layout) return;
+            
+            double[] xs = frame.x;
+            double[] ys = frame.y;
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < xs.length; i++) {
+                minX = Math.min(minX, xs[i]);
+                maxX = Math.max(maxX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxY = Math.max(maxY, ys[i]);
+            }
+            
+            // Fit the layout into the visible canvas, keeping its aspect ratio
+            int margin = 30;
+            double width = Math.max(1, getWidth() - 2 * margin);
+            double height = Math.max(1, getHeight() - 2 * margin);
+            double scale = Math.min(width / Math.max(1e-9, maxX - minX),
+                                    height / Math.max(1e-9, maxY - minY));
+            double offsetX = margin + (width - (maxX - minX) * scale) / 2;
+            double offsetY = margin + (height - (maxY - minY) * scale) / 2;
+            for (int i = 0; i < xs.length; i++) {
+                layoutVertices[i].x = (int) Math.round(offsetX + (xs[i] - minX) * scale);
+                layoutVertices[i].y = (int) Math.round(offsetY + (ys[i] - minY) * scale);
+            }
+            
+            if (frame.finished) {
+                layout = null;
+                layoutVertices = null;
+                layoutFinished();
+                statusLabel.setText("Auto layout finished.");
+            }
+            repaint();
+        }
+
+        // Edge ids get recycled, so highlights are dropped on every edit
+        public void highlightEdges(int[] edgeIds) {
+            highlightedEdges.clear();
+            for (int e : edgeIds) {
+                highlightedEdges.set(e);
+            }
+            repaint();
+        }
+
+        public void clearHighlight() {
+            if (!highlightedEdges.isEmpty()) {
+                highlightedEdges.clear();
+                repaint();
+            }
+        }
+
+        public void removeLastVertex() {
+            if (!vertices.isEmpty()) {
+                vertices.remove(vertices.size() - 1);
             }
         }
 
         public void clear() {
             vertices.clear();
-            edges.clear();
-            vertexCounter = 0;
+            highlightedEdges.clear();
             edgeMode = false;
             selectedVertex1 = null;
             selectedVertex2 = null;
@@ -461,20 +790,38 @@ public class VisualGraphAnalyzer extends JFrame {
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             // Draw edges first
-            for (Edge edge : edges) {
-                drawEdge(g2d, edge);
+            EdgeStore store = graphManager.getEdgeStore();
+            for (int e = 0; e < store.getEdgeIdLimit(); e++) {
+                if (store.isLive(e)) {
+                    drawEdge(g2d, vertices.get(store.getFrom(e)), vertices.get(store.getTo(e)),
+                        store.getWeight(e), highlightedEdges.get(e));
+                }
+            }
+            
+            // BFS tree of the pinned source over the plain edges
+            if (graphManager.hasPinnedSource()) {
+                for (int i = 0; i < vertices.size(); i++) {
+                    int parent = graphManager.getPinnedParent(i);
+                    if (parent >= 0) {
+                        drawTreeLink(g2d, vertices.get(parent), vertices.get(i));
+                    }
+                }
             }
             
             // Draw vertices on top
             for (Vertex vertex : vertices) {
                 drawVertex(g2d, vertex);
             }
+            
+            // Live hop distances from the pinned BFS source
+            if (graphManager.hasPinnedSource()) {
+                for (int i = 0; i < vertices.size(); i++) {
+                    drawDistance(g2d, vertices.get(i), graphManager.getPinnedDistance(i));
+                }
+            }
         }
 
-        private void drawEdge(Graphics2D g2d, Edge edge) {
-            Vertex v1 = edge.start;
-            Vertex v2 = edge.end;
-            
+        private void drawEdge(Graphics2D g2d, Vertex v1, Vertex v2, int weight, boolean highlighted) {
             // Calculate edge endpoints
             int x1 = v1.x;
             int y1 = v1.y;
@@ -482,8 +829,13 @@ public class VisualGraphAnalyzer extends JFrame {
             int y2 = v2.y;
             
             // Draw line
-            g2d.setColor(Color.DARK_GRAY);
-            g2d.setStroke(new BasicStroke(2));
+            if (highlighted) {
+                g2d.setColor(new Color(0, 170, 80));
+                g2d.setStroke(new BasicStroke(4));
+            } else {
+                g2d.setColor(Color.DARK_GRAY);
+                g2d.setStroke(new BasicStroke(2));
+            }
             g2d.drawLine(x1, y1, x2, y2);
             
             // Draw arrow for directed graph
@@ -499,7 +851,7 @@ public class VisualGraphAnalyzer extends JFrame {
                 g2d.fillOval(midX - 10, midY - 10, 20, 20);
                 g2d.setColor(Color.WHITE);
                 g2d.setFont(new Font("Arial", Font.BOLD, 12));
-                String weightStr = String.valueOf(edge.weight);
+                String weightStr = String.valueOf(weight);
                 FontMetrics fm = g2d.getFontMetrics();
                 int textWidth = fm.stringWidth(weightStr);
                 g2d.drawString(weightStr, midX - textWidth / 2, midY + 5);
@@ -552,6 +904,32 @@ public class VisualGraphAnalyzer extends JFrame {
             int textHeight = fm.getAscent();
             g2d.drawString(idStr, vertex.x - textWidth / 2, vertex.y + textHeight / 3);
         }
+
+        private void drawTreeLink(Graphics2D g2d, Vertex parent, Vertex child) {
+            g2d.setColor(new Color(0, 170, 80, 160));
+            g2d.setStroke(new BasicStroke(6, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2d.drawLine(parent.x, parent.y, child.x, child.y);
+        }
+
+        private void drawDistance(Graphics2D g2d, Vertex vertex, int distance) {
+            if (distance == 0) {
+                // Ring around the source itself
+                g2d.setColor(new Color(0, 170, 80));
+                g2d.setStroke(new BasicStroke(3));
+                g2d.drawOval(vertex.x - 25, vertex.y - 25, 50, 50);
+            }
+            
+            String text = distance < 0 ? "-" : String.valueOf(distance);
+            g2d.setFont(new Font("Arial", Font.BOLD, 11));
+            FontMetrics fm = g2d.getFontMetrics();
+            int width = Math.max(16, fm.stringWidth(text) + 6);
+            int bx = vertex.x + 14;
+            int by = vertex.y - 30;
+            g2d.setColor(distance < 0 ? Color.GRAY : new Color(0, 170, 80));
+            g2d.fillRoundRect(bx, by, width, 16, 8, 8);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(text, bx + (width - fm.stringWidth(text)) / 2, by + 12);
+        }
     }
 
     // Inner Classes
@@ -582,14 +960,16 @@ public class VisualGraphAnalyzer extends JFrame {
         }
     }
 
-    class Edge {
-        Vertex start, end;
-        int weight;
+    class LayoutFrame {
+        ForceDirectedLayout source;
+        double[] x, y;
+        boolean finished;
 
-        public Edge(Vertex start, Vertex end, int weight) {
-            this.start = start;
-            this.end = end;
-            this.weight = weight;
+        public LayoutFrame(ForceDirectedLayout source, double[] x, double[] y, boolean finished) {
+            this.source = source;
+            this.x = x;
+            this.y = y;
+            this.finished = finished;
         }
     }
 
@@ -615,167 +995,298 @@ class GraphAction {
     int vertexId;
     int fromVertex;
     int toVertex;
+    int edgeId;
 
-    public GraphAction(ActionType type, int vertexId, int fromVertex, int toVertex) {
+    public GraphAction(ActionType type, int vertexId, int fromVertex, int toVertex, int edgeId) {
         this.type = type;
         this.vertexId = vertexId;
         this.fromVertex = fromVertex;
         this.toVertex = toVertex;
+        this.edgeId = edgeId;
     }
 }
 
 // Graph Manager with Adjacency List
+// Vertices live under dense indices 0..n-1, kept in ascending label order, so
+// algorithms work on plain int arrays and iterate vertices already sorted.
+// External labels (the ids shown on the canvas) map to indices through a
+// primitive hash map. Edges are kept in an EdgeStore that the canvas draws
+// from directly; direction is applied when traversing, so toggling between
+// directed and undirected takes effect on the next traversal.
+// When a BFS source is pinned, its hop distances are repaired incrementally
+// on every edge insertion and rebuilt after any deletion.
 class GraphManager {
-    private Map<Integer, List<EdgeInfo>> adjacencyList;
-    private Set<Integer> vertices;
+    private int[] labels;            // dense index -> external label
+    private IntIntHashMap indexOf;   // external label -> dense index
+    private int vertexCount;
+    private EdgeStore edges;
     private boolean isDirected;
     private boolean isWeighted;
-    private int edgeCount;
+    private IncrementalBfs pinnedBfs;
+    private int pinnedLabel;
 
     public GraphManager() {
-        adjacencyList = new HashMap<>();
-        vertices = new HashSet<>();
+        labels = new int[16];
+        indexOf = new IntIntHashMap();
+        edges = new EdgeStore();
         isDirected = false;
         isWeighted = false;
-        edgeCount = 0;
+    }
+
+    // Allocates the next label: one past the largest label in use, so undoing
+    // the newest vertex hands its label out again
+    public int addVertex() {
+        int label = vertexCount == 0 ? 1 : labels[vertexCount - 1] + 1;
+        addVertex(label);
+        return label;
     }
 
     public void addVertex(int id) {
-        vertices.add(id);
-        adjacencyList.putIfAbsent(id, new ArrayList<>());
+        if (indexOf.containsKey(id)) return;
+        if (vertexCount == labels.length) {
+            labels = Arrays.copyOf(labels, vertexCount * 2);
+        }
+        
+        int pos = vertexCount;
+        if (vertexCount > 0 && id < labels[vertexCount - 1]) {
+            // Out-of-order label: open a slot to keep indices sorted
+            pos = -Arrays.binarySearch(labels, 0, vertexCount, id) - 1;
+            System.arraycopy(labels, pos, labels, pos + 1, vertexCount - pos);
+            reindex(pos + 1, vertexCount + 1);
+        }
+        labels[pos] = id;
+        indexOf.put(id, pos);
+        edges.insertVertex(pos);
+        vertexCount++;
+        
+        if (pinnedBfs != null) {
+            if (pos == vertexCount - 1) {
+                pinnedBfs.vertexAppended();
+            } else {
+                rebuildPinnedBfs();
+            }
+        }
     }
 
-    public void addEdge(int from, int to, int weight) {
-        adjacencyList.get(from).add(new EdgeInfo(to, weight));
-        if (!isDirected) {
-            adjacencyList.get(to).add(new EdgeInfo(from, weight));
+    // Returns the new edge's id, or -1 if either endpoint is unknown
+    public int addEdge(int from, int to, int weight) {
+        int u = indexOf.get(from, -1);
+        int v = indexOf.get(to, -1);
+        if (u < 0 || v < 0) return -1;
+        int e = edges.addEdge(u, v, weight);
+        if (pinnedBfs != null) {
+            pinnedBfs.edgeAdded(e);
         }
-        edgeCount++;
+        return e;
     }
 
     public void removeVertex(int id) {
-        vertices.remove(id);
-        adjacencyList.remove(id);
-        // Remove all edges connected to this vertex
-        for (List<EdgeInfo> edges : adjacencyList.values()) {
-            edges.removeIf(edge -> edge.dest == id);
+        int idx = indexOf.get(id, -1);
+        if (idx < 0) return;
+        
+        // Drops all edges connected to this vertex as well
+        edges.removeVertex(idx);
+        indexOf.remove(id);
+        System.arraycopy(labels, idx + 1, labels, idx, vertexCount - idx - 1);
+        vertexCount--;
+        reindex(idx, vertexCount);
+        
+        if (id == pinnedLabel) {
+            unpinSource();
+        } else {
+            rebuildPinnedBfs();
         }
     }
 
-    public void removeEdge(int from, int to) {
-        List<EdgeInfo> edges = adjacencyList.get(from);
-        if (edges != null) {
-            edges.removeIf(edge -> edge.dest == to);
-        }
-        if (!isDirected) {
-            List<EdgeInfo> reverseEdges = adjacencyList.get(to);
-            if (reverseEdges != null) {
-                reverseEdges.removeIf(edge -> edge.dest == from);
-            }
+    public boolean removeEdge(int edgeId) {
+        boolean removed = edges.removeEdge(edgeId);
+        if (removed) rebuildPinnedBfs();
+        return removed;
+    }
+
+    // Removes the newest edge between the two vertices (one of any parallels)
+    public boolean removeEdge(int from, int to) {
+        int u = indexOf.get(from, -1);
+        int v = indexOf.get(to, -1);
+        if (u < 0 || v < 0) return false;
+        return removeEdge(edges.findEdge(u, v, isDirected));
+    }
+
+    // Starts maintaining hop distances from this vertex
+    public void pinSource(int id) {
+        if (!indexOf.containsKey(id)) return;
+        pinnedLabel = id;
+        pinnedBfs = new IncrementalBfs(edges);
+        rebuildPinnedBfs();
+    }
+
+    public void unpinSource() {
+        pinnedBfs = null;
+        pinnedLabel = 0;
+    }
+
+    public boolean hasPinnedSource() { return pinnedBfs != null; }
+    public int getPinnedSource() { return pinnedLabel; }
+
+    // Hops from the pinned source to the vertex at this index, -1 if unreachable
+    public int getPinnedDistance(int index) {
+        return pinnedBfs == null ? -1 : pinnedBfs.getDistance(index);
+    }
+
+    // Index of the BFS parent of the vertex at this index, or -1
+    public int getPinnedParent(int index) {
+        return pinnedBfs == null ? -1 : pinnedBfs.getParent(index);
+    }
+
+    private void rebuildPinnedBfs() {
+        if (pinnedBfs != null) {
+            pinnedBfs.rebuild(indexOf.get(pinnedLabel, -1), vertexCount, isDirected);
         }
-        edgeCount--;
     }
 
-    public List<Integer> bfs(int start) {
-        List<Integer> result = new ArrayList<>();
-        if (!vertices.contains(start)) return result;
+    // Traversals return external labels in visit order
+    public int[] bfs(int start) {
+        int s = indexOf.get(start, -1);
+        if (s < 0) return new int[0];
         
-        Set<Integer> visited = new HashSet<>();
-        Queue<Integer> queue = new LinkedList<>();
+        boolean[] visited = new boolean[vertexCount];
+        int[] queue = new int[vertexCount];
+        int head = 0, tail = 0;
         
-        visited.add(start);
-        queue.offer(start);
+        visited[s] = true;
+        queue[tail++] = s;
         
-        while (!queue.isEmpty()) {
-            int vertex = queue.poll();
-            result.add(vertex);
-            
-            List<EdgeInfo> edges = adjacencyList.get(vertex);
-            if (edges != null) {
-                for (EdgeInfo edge : edges) {
-                    if (!visited.contains(edge.dest)) {
-                        visited.add(edge.dest);
-                        queue.offer(edge.dest);
-                    }
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int k = 0; k < edges.getDegree(vertex); k++) {
+                int next = neighbor(vertex, k);
+                if (next >= 0 && !visited[next]) {
+                    visited[next] = true;
+                    queue[tail++] = next;
                 }
             }
         }
         
-        return result;
+        return toLabels(queue, tail);
     }
 
-    public List<Integer> dfs(int start) {
-        List<Integer> result = new ArrayList<>();
-        if (!vertices.contains(start)) return result;
+    // Iterative, but visits vertices in the same order as the recursive form
+    public int[] dfs(int start) {
+        int s = indexOf.get(start, -1);
+        if (s < 0) return new int[0];
         
-        Set<Integer> visited = new HashSet<>();
-        dfsHelper(start, visited, result);
-        return result;
-    }
-
-    private void dfsHelper(int vertex, Set<Integer> visited, List<Integer> result) {
-        visited.add(vertex);
-        result.add(vertex);
+        boolean[] visited = new boolean[vertexCount];
+        int[] stack = new int[vertexCount];
+        int[] cursor = new int[vertexCount];
+        int[] order = new int[vertexCount];
+        int count = 0, top = 0;
         
-        List<EdgeInfo> edges = adjacencyList.get(vertex);
-        if (edges != null) {
-            for (EdgeInfo edge : edges) {
-                if (!visited.contains(edge.dest)) {
-                    dfsHelper(edge.dest, visited, result);
-                }
+        visited[s] = true;
+        order[count++] = s;
+        stack[top++] = s;
+        
+        while (top > 0) {
+            int vertex = stack[top - 1];
+            if (cursor[vertex] == edges.getDegree(vertex)) {
+                top--;
+                continue;
+            }
+            int next = neighbor(vertex, cursor[vertex]++);
+            if (next >= 0 && !visited[next]) {
+                visited[next] = true;
+                order[count++] = next;
+                stack[top++] = next;
             }
         }
+        
+        return toLabels(order, count);
     }
 
     public boolean isConnected() {
-        if (vertices.isEmpty()) return true;
+        if (vertexCount == 0) return true;
         
-        int startVertex = vertices.iterator().next();
-        List<Integer> reachable = bfs(startVertex);
-        return reachable.size() == vertices.size();
+        return bfs(labels[0]).length == vertexCount;
     }
 
     public int countConnectedComponents() {
-        Set<Integer> visited = new HashSet<>();
+        boolean[] visited = new boolean[vertexCount];
+        int[] queue = new int[vertexCount];
         int components = 0;
         
-        for (int vertex : vertices) {
-            if (!visited.contains(vertex)) {
-                components++;
-                List<Integer> component = bfs(vertex);
-                visited.addAll(component);
+        for (int s = 0; s < vertexCount; s++) {
+            if (visited[s]) continue;
+            components++;
+            int head = 0, tail = 0;
+            visited[s] = true;
+            queue[tail++] = s;
+            while (head < tail) {
+                int vertex = queue[head++];
+                for (int k = 0; k < edges.getDegree(vertex); k++) {
+                    int next = neighbor(vertex, k);
+                    if (next >= 0 && !visited[next]) {
+                        visited[next] = true;
+                        queue[tail++] = next;
+                    }
+                }
             }
         }
         
         return components;
     }
 
-    public List<Integer> getAllVerticesSorted() {
-        List<Integer> sorted = new ArrayList<>(vertices);
-        Collections.sort(sorted);
-        return sorted;
+    // Treats every edge as undirected regardless of isDirected
+    public MinimumSpanningForest computeSpanningForest() {
+        MinimumSpanningForest forest = new MinimumSpanningForest(edges, vertexCount);
+        forest.compute();
+        return forest;
+    }
+
+    // Labels in ascending order; index i of the result is dense index i
+    public int[] getVertexLabels() {
+        return Arrays.copyOf(labels, vertexCount);
     }
 
+    public int getVertexLabel(int index) { return labels[index]; }
+    public EdgeStore getEdgeStore() { return edges; }
+
     public void clear() {
-        adjacencyList.clear();
-        vertices.clear();
-        edgeCount = 0;
+        unpinSource();
+        edges.clear();
+        indexOf.clear();
+        vertexCount = 0;
     }
 
-    public int getVertexCount() { return vertices.size(); }
-    public int getEdgeCount() { return edgeCount; }
+    public int getVertexCount() { return vertexCount; }
+    public int getEdgeCount() { return edges.getEdgeCount(); }
     public boolean isDirected() { return isDirected; }
     public boolean isWeighted() { return isWeighted; }
-    public void setDirected(boolean directed) { this.isDirected = directed; }
+    public void setDirected(boolean directed) {
+        if (directed == isDirected) return;
+        this.isDirected = directed;
+        rebuildPinnedBfs();
+    }
     public void setWeighted(boolean weighted) { this.isWeighted = weighted; }
-}
 
-class EdgeInfo {
-    int dest;
-    int weight;
+    // k-th incident edge of v seen as a neighbor, or -1 when the edge points
+    // into v and the graph is directed
+    private int neighbor(int v, int k) {
+        int e = edges.getIncidentEdge(v, k);
+        int u = edges.getFrom(e);
+        if (u == v) return edges.getTo(e);
+        return isDirected ? -1 : u;
+    }
 
-    public EdgeInfo(int dest, int weight) {
-        this.dest = dest;
-        this.weight = weight;
+    private int[] toLabels(int[] indices, int count) {
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = labels[indices[i]];
+        }
+        return result;
     }
-}
\ No newline at end of file
+
+    private void reindex(int start, int end) {
+        for (int i = start; i < end; i++) {
+            indexOf.put(labels[i], i);
+        }
+    }
+}